@@ -0,0 +1,172 @@
+package ch.fhnw.aigs.connectfourclient;
+
+import javafx.animation.Animation;
+import javafx.animation.AnimationTimer;
+import javafx.util.Duration;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Measures frame times and server latency and derives how long (or whether) move animations should run.
+ * Animations are compressed when the user plays fast or frames are being dropped, and skipped entirely
+ * when both happen. Frames are only sampled while a move is being shown, so an idle board does not keep
+ * JavaFX pulsing. All methods except recordLatency must be called on the FX thread.
+ */
+public class AnimationScheduler {
+
+    private static final int FRAME_WINDOW = 120;
+    private static final double FRAME_BUDGET_MS = 1000.0 / 60.0;
+    private static final long STATS_INTERVAL_NS = 500_000_000L;
+
+    private static final double FAST_PLAY_MS = 700;
+    private static final double VERY_FAST_PLAY_MS = 300;
+    private static final double DROPPED_RATIO = 0.10;
+    private static final long SAMPLE_TAIL_NS = 300_000_000L;
+
+    public record FrameStats(int frames, double avgMs, double p95Ms, double maxMs, int dropped, double latencyMs, double speed) {}
+
+    private final long[] frameNanos = new long[FRAME_WINDOW];
+    private int frameCount;
+    private int frameIndex;
+    private long lastFrame;
+    private long lastStats;
+    private long sampleUntil;
+    private boolean sampling;
+
+    private volatile double latencyMs = -1;
+    private double thinkMs = -1;
+    private long inputReadyAt;
+
+    private final Map<Animation, Runnable> running = new IdentityHashMap<>();
+    private final Consumer<FrameStats> statsListener;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (running.isEmpty() && now > sampleUntil) {
+                stopSampling();
+                return;
+            }
+            if (lastFrame != 0) {
+                frameNanos[frameIndex] = now - lastFrame;
+                frameIndex = (frameIndex + 1) % FRAME_WINDOW;
+                frameCount = Math.min(frameCount + 1, FRAME_WINDOW);
+            }
+            lastFrame = now;
+
+            if (statsListener != null && now - lastStats >= STATS_INTERVAL_NS) {
+                lastStats = now;
+                statsListener.accept(stats());
+            }
+        }
+    };
+
+    public AnimationScheduler(Consumer<FrameStats> statsListener) {
+        this.statsListener = statsListener;
+    }
+
+    public void stop() {
+        stopSampling();
+        finishAll();
+    }
+
+    /** Samples frame times while the move is shown and for a short tail afterwards. */
+    public void moveShown() {
+        sampleUntil = System.nanoTime() + SAMPLE_TAIL_NS;
+        if (!sampling) {
+            sampling = true;
+            lastFrame = 0;
+            timer.start();
+        }
+    }
+
+    private void stopSampling() {
+        timer.stop();
+        sampling = false;
+        lastFrame = 0;
+        if (statsListener != null) statsListener.accept(stats());
+    }
+
+    public void recordLatency(long nanos) {
+        double ms = nanos / 1_000_000.0;
+        double prev = latencyMs;
+        latencyMs = prev < 0 ? ms : prev * 0.7 + ms * 0.3;
+    }
+
+    public void inputReady() {
+        inputReadyAt = System.nanoTime();
+    }
+
+    public void inputUsed() {
+        if (inputReadyAt == 0) return;
+        double ms = (System.nanoTime() - inputReadyAt) / 1_000_000.0;
+        thinkMs = thinkMs < 0 ? ms : thinkMs * 0.6 + ms * 0.4;
+        inputReadyAt = 0;
+    }
+
+    /** 1.0 = full length, smaller = compressed, 0 = skip animations. */
+    public double speed() {
+        boolean fastPlayer = thinkMs >= 0 && thinkMs < FAST_PLAY_MS;
+        boolean veryFastPlayer = thinkMs >= 0 && thinkMs < VERY_FAST_PLAY_MS;
+        boolean dropping = frameCount > 0 && (double) droppedFrames() / frameCount > DROPPED_RATIO;
+
+        if (veryFastPlayer || (fastPlayer && dropping)) return 0;
+        if (fastPlayer || dropping) return 0.5;
+        return 1.0;
+    }
+
+    public boolean shouldSkip() {
+        return speed() == 0;
+    }
+
+    public Duration scale(double baseMs) {
+        return Duration.millis(baseMs * speed());
+    }
+
+    public void play(Animation animation, Runnable finish) {
+        moveShown();
+        running.put(animation, finish);
+        animation.setOnFinished(e -> {
+            running.remove(animation);
+            sampleUntil = Math.max(sampleUntil, System.nanoTime() + SAMPLE_TAIL_NS);
+        });
+        animation.play();
+    }
+
+    public void finishAll() {
+        for (Map.Entry<Animation, Runnable> e : running.entrySet()) {
+            e.getKey().stop();
+            e.getValue().run();
+        }
+        running.clear();
+    }
+
+    public FrameStats stats() {
+        if (frameCount == 0) return new FrameStats(0, 0, 0, 0, 0, latencyMs, speed());
+
+        long[] sorted = Arrays.copyOf(frameNanos, frameCount);
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (long n : sorted) sum += n;
+
+        return new FrameStats(
+                frameCount,
+                sum / 1_000_000.0 / frameCount,
+                sorted[(int) Math.min(frameCount - 1, Math.ceil(frameCount * 0.95) - 1)] / 1_000_000.0,
+                sorted[frameCount - 1] / 1_000_000.0,
+                droppedFrames(),
+                latencyMs,
+                speed());
+    }
+
+    private int droppedFrames() {
+        int dropped = 0;
+        for (int i = 0; i < frameCount; i++) {
+            if (frameNanos[i] / 1_000_000.0 > FRAME_BUDGET_MS * 1.5) dropped++;
+        }
+        return dropped;
+    }
+}
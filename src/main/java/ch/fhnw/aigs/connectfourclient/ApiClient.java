@@ -1,58 +1,126 @@
 package ch.fhnw.aigs.connectfourclient;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ApiClient {
 
-    private final String baseUrl;
-    private final HttpClient http = HttpClient.newHttpClient();
+    private final Transport transport;
     private final ObjectMapper om = new ObjectMapper();
+    private final ObjectMapper smile = new SmileMapper();
 
-    public ApiClient(String baseUrl) {
-        this.baseUrl = baseUrl;
+
+    private final boolean offerBinary;
+    private volatile WireFormat requestFormat = WireFormat.JSON;
+    private volatile boolean binaryRejected = false;
+
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    public ApiClient(Transport transport, boolean offerBinary) {
+        this.transport = transport;
+        this.offerBinary = offerBinary;
     }
 
     public User register(String userName, String password) throws Exception {
-        String json = "{\"userName\":\"" + esc(userName) + "\",\"password\":\"" + esc(password) + "\"}";
-        return post("/users/register", json, User.class);
+        ObjectNode body = om.createObjectNode()
+                .put("userName", text(userName))
+                .put("password", text(password));
+        return post("/users/register", body, User.class);
     }
 
     public User login(String userName, String password) throws Exception {
-        String json = "{\"userName\":\"" + esc(userName) + "\",\"password\":\"" + esc(password) + "\"}";
-        return post("/users/login", json, User.class);
+        ObjectNode body = om.createObjectNode()
+                .put("userName", text(userName))
+                .put("password", text(password));
+        return post("/users/login", body, User.class);
     }
 
     public Game newGame(String token, String gameType, int difficulty) throws Exception {
-        String json = "{\"token\":\"" + esc(token) + "\",\"gameType\":\"" + esc(gameType) + "\",\"difficulty\":\"" + difficulty + "\"}";
-        return post("/game/new", json, Game.class);
+        ObjectNode body = om.createObjectNode()
+                .put("token", text(token))
+                .put("gameType", text(gameType))
+                .put("difficulty", String.valueOf(difficulty));
+        return post("/game/new", body, Game.class);
     }
 
     public Game move(String token, int col) throws Exception {
-        String json = "{\"token\":\"" + esc(token) + "\",\"col\":\"" + col + "\"}";
-        return post("/game/move", json, Game.class);
+        ObjectNode body = om.createObjectNode()
+                .put("token", text(token))
+                .put("col", String.valueOf(col));
+        return post("/game/move", body, Game.class);
     }
 
-    private <T> T post(String path, String json, Class<T> clazz) throws Exception {
-        HttpRequest req = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + path))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(json))
-                .build();
+    public WireFormat getWireFormat() {
+        return requestFormat;
+    }
 
-        HttpResponse<String> res = http.send(req, HttpResponse.BodyHandlers.ofString());
-        if (res.statusCode() >= 400) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + res.body());
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    private <T> T post(String path, ObjectNode body, Class<T> clazz) throws Exception {
+        WireFormat format = requestFormat;
+        byte[] payload = mapperFor(format).writeValueAsBytes(body);
+
+        Transport.Response res = transport.exchange(new Transport.Request(path, format.mediaType(), acceptHeader(), payload));
+        bytesSent.addAndGet(payload.length);
+        bytesReceived.addAndGet(res.body().length);
+
+        // Server understood our Accept header but not a binary request body: stay on JSON from now on.
+        if (format == WireFormat.SMILE && (res.status() == 415 || res.status() == 406)) {
+            binaryRejected = true;
+            requestFormat = WireFormat.JSON;
+            return post(path, body, clazz);
         }
-        return om.readValue(res.body(), clazz);
+
+        WireFormat responseFormat = WireFormat.fromContentType(res.contentType());
+        if (res.status() >= 400) {
+            String msg = responseFormat == WireFormat.JSON
+                    ? new String(res.body(), StandardCharsets.UTF_8)
+                    : smile.readTree(res.body()).toString();
+            throw new HttpStatusException(res.status(), msg);
+        }
+
+        if (responseFormat == WireFormat.SMILE && offerBinary && !binaryRejected) {
+            requestFormat = WireFormat.SMILE;
+        }
+        return mapperFor(responseFormat).readValue(res.body(), clazz);
+    }
+
+    private String acceptHeader() {
+        if (!offerBinary || binaryRejected) return WireFormat.JSON.mediaType();
+        return WireFormat.SMILE.mediaType() + ", " + WireFormat.JSON.mediaType() + ";q=0.9";
+    }
+
+    private ObjectMapper mapperFor(WireFormat format) {
+        return format == WireFormat.SMILE ? smile : om;
+    }
+
+    private String text(String s) {
+        return s == null ? "" : s;
     }
 
-    private String esc(String s) {
-        if (s == null) return "";
-        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    public static class HttpStatusException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int statusCode;
+
+        public HttpStatusException(int statusCode, String body) {
+            super("HTTP " + statusCode + " - " + body);
+            this.statusCode = statusCode;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
     }
 }
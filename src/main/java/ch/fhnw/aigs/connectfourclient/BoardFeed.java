@@ -0,0 +1,10 @@
+package ch.fhnw.aigs.connectfourclient;
+
+/**
+ * Drives one mini-board on the spectator wall. Each call to step() performs at most one request
+ * and returns how long to wait before the next step, so many feeds can share a few threads.
+ */
+public interface BoardFeed {
+
+    long step(MiniBoard board) throws Exception;
+}
@@ -0,0 +1,216 @@
+package ch.fhnw.aigs.connectfourclient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A list of game server endpoints that are probed in the background.
+ * New sessions go to the fastest healthy endpoint; each endpoint has its own circuit breaker.
+ * A logged-in session stays on the endpoint that issued its token.
+ */
+public class EndpointPool {
+
+    private static final long PROBE_INTERVAL_MS = 5000;
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(2);
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long OPEN_MS = 10_000;
+
+    public enum State { HEALTHY, UNKNOWN, DEGRADED, HALF_OPEN, OPEN }
+
+    public static class Endpoint {
+        private final String url;
+        private final ApiClient api;
+
+        private double latencyMs = -1;
+        private int failures;
+        private long openUntil;
+        private boolean probed;
+        private boolean trialInFlight;
+
+        Endpoint(String url, Transport transport, boolean offerBinary) {
+            this.url = url;
+            this.api = new ApiClient(transport, offerBinary);
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public ApiClient getApi() {
+            return api;
+        }
+
+        public synchronized double getLatencyMs() {
+            return latencyMs;
+        }
+
+        public synchronized State getState() {
+            if (failures >= FAILURE_THRESHOLD) {
+                return System.currentTimeMillis() < openUntil ? State.OPEN : State.HALF_OPEN;
+            }
+            if (failures > 0) return State.DEGRADED;
+            return probed ? State.HEALTHY : State.UNKNOWN;
+        }
+
+        /** Open breakers refuse traffic; a half-open one lets exactly one trial through until it resolves. */
+        synchronized boolean tryAcquire() {
+            State state = getState();
+            if (state == State.OPEN) return false;
+            if (state == State.HALF_OPEN) {
+                if (trialInFlight) return false;
+                trialInFlight = true;
+            }
+            return true;
+        }
+
+        synchronized void success(long nanos) {
+            double ms = nanos / 1_000_000.0;
+            latencyMs = latencyMs < 0 ? ms : latencyMs * 0.7 + ms * 0.3;
+            failures = 0;
+            probed = true;
+            trialInFlight = false;
+        }
+
+        synchronized void failure() {
+            failures++;
+            probed = true;
+            trialInFlight = false;
+            if (failures >= FAILURE_THRESHOLD) openUntil = System.currentTimeMillis() + OPEN_MS;
+        }
+
+        synchronized long openUntil() {
+            return openUntil;
+        }
+    }
+
+    @FunctionalInterface
+    public interface ApiCall<T> {
+        T call(ApiClient api) throws Exception;
+    }
+
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final HttpClient probeHttp = HttpClient.newBuilder().connectTimeout(PROBE_TIMEOUT).build();
+    private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "endpoint-probe");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Runnable onChange;
+
+    public EndpointPool(List<String> urls, Function<String, Transport> transports, boolean offerBinary, Runnable onChange) {
+        for (String url : urls) endpoints.add(new Endpoint(url, transports.apply(url), offerBinary));
+        this.onChange = onChange;
+    }
+
+    public static List<String> parse(String urls) {
+        List<String> out = new ArrayList<>();
+        for (String s : urls.split("[,\\s]+")) {
+            String u = s.trim();
+            while (u.endsWith("/")) u = u.substring(0, u.length() - 1);
+            if (!u.isEmpty() && !out.contains(u)) out.add(u);
+        }
+        return out;
+    }
+
+    public void start() {
+        prober.scheduleWithFixedDelay(this::probeAll, 0, PROBE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        prober.shutdownNow();
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /** Endpoints in routing order: by state (healthy first), then by latency; open breakers by the time they close. */
+    public List<Endpoint> ranked() {
+        List<Endpoint> ranked = new ArrayList<>(endpoints);
+        ranked.sort(Comparator.<Endpoint, State>comparing(Endpoint::getState)
+                .thenComparingDouble(e -> e.getLatencyMs() < 0 ? Double.MAX_VALUE : e.getLatencyMs())
+                .thenComparingLong(Endpoint::openUntil));
+        return ranked;
+    }
+
+    public Endpoint best() {
+        return ranked().get(0);
+    }
+
+    public <T> T call(Endpoint endpoint, ApiCall<T> call) throws Exception {
+        if (!endpoint.tryAcquire()) {
+            throw new IllegalStateException("Server " + endpoint.url + " is temporarily unavailable");
+        }
+        long t0 = System.nanoTime();
+        try {
+            T result = call.call(endpoint.api);
+            endpoint.success(System.nanoTime() - t0);
+            return result;
+        } catch (ApiClient.HttpStatusException e) {
+            if (e.getStatusCode() >= 500) endpoint.failure();
+            else endpoint.success(System.nanoTime() - t0);
+            throw e;
+        } catch (Exception e) {
+            endpoint.failure();
+            throw e;
+        } finally {
+            onChange.run();
+        }
+    }
+
+    /**
+     * Tries endpoints in routing order until one answers; used to start a session.
+     * Only transport errors and 5xx fail over; a 4xx (e.g. wrong credentials) is the answer and is rethrown.
+     * Returns the endpoint that succeeded so the caller can pin the session to it.
+     */
+    public <T> Pinned<T> callFirst(ApiCall<T> call) throws Exception {
+        Exception last = null;
+        for (Endpoint e : ranked()) {
+            try {
+                return new Pinned<>(e, call(e, call));
+            } catch (ApiClient.HttpStatusException ex) {
+                if (ex.getStatusCode() < 500) throw ex;
+                last = ex;
+            } catch (Exception ex) {
+                last = ex;
+            }
+        }
+        throw last != null ? last : new IllegalStateException("No server configured");
+    }
+
+    public record Pinned<T>(Endpoint endpoint, T value) {}
+
+    private void probeAll() {
+        for (Endpoint e : endpoints) {
+            if (!e.tryAcquire()) continue;
+
+            HttpRequest req = HttpRequest.newBuilder()
+                    .uri(URI.create(e.url + "/"))
+                    .timeout(PROBE_TIMEOUT)
+                    .GET()
+                    .build();
+            long t0 = System.nanoTime();
+            try {
+                HttpResponse<Void> res = probeHttp.send(req, HttpResponse.BodyHandlers.discarding());
+                if (res.statusCode() >= 500) e.failure();
+                else e.success(System.nanoTime() - t0);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                e.failure();
+            }
+        }
+        onChange.run();
+    }
+}
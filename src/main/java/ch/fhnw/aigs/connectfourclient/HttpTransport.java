@@ -0,0 +1,29 @@
+package ch.fhnw.aigs.connectfourclient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+public class HttpTransport implements Transport {
+
+    private final String baseUrl;
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    public HttpTransport(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public Response exchange(Request request) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + request.path()))
+                .header("Content-Type", request.contentType())
+                .header("Accept", request.accept())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(request.body()))
+                .build();
+
+        HttpResponse<byte[]> res = http.send(req, HttpResponse.BodyHandlers.ofByteArray());
+        return new Response(res.statusCode(), res.headers().firstValue("Content-Type").orElse(null), res.body());
+    }
+}
@@ -0,0 +1,258 @@
+package ch.fhnw.aigs.connectfourclient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal stand-in for the AIGS game service that speaks both JSON and Smile.
+ * Used to measure the wire format gain locally; GET /stats reports bytes per format.
+ */
+public class LocalGameServer {
+
+    private static final int ROWS = 6;
+    private static final int COLS = 7;
+
+    private final ObjectMapper om = new ObjectMapper();
+    private final ObjectMapper smile = new SmileMapper();
+
+    private final Map<String, String> passwords = new ConcurrentHashMap<>();
+    private final Map<String, Game> games = new ConcurrentHashMap<>();
+
+    private final Map<WireFormat, AtomicLong> bytesIn = new ConcurrentHashMap<>();
+    private final Map<WireFormat, AtomicLong> bytesOut = new ConcurrentHashMap<>();
+    private final Map<WireFormat, AtomicLong> requests = new ConcurrentHashMap<>();
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    public LocalGameServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.setExecutor(executor);
+        server.createContext("/users/register", ex -> handle(ex, this::register));
+        server.createContext("/users/login", ex -> handle(ex, this::login));
+        server.createContext("/game/new", ex -> handle(ex, this::newGame));
+        server.createContext("/game/move", ex -> handle(ex, this::move));
+        server.createContext("/stats", this::stats);
+        for (WireFormat f : WireFormat.values()) {
+            bytesIn.put(f, new AtomicLong());
+            bytesOut.put(f, new AtomicLong());
+            requests.put(f, new AtomicLong());
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(JsonNode body);
+    }
+
+    private void handle(HttpExchange ex, Handler handler) throws IOException {
+        try {
+            if (!"POST".equals(ex.getRequestMethod())) {
+                ex.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            WireFormat inFormat = WireFormat.fromContentType(ex.getRequestHeaders().getFirst("Content-Type"));
+            WireFormat outFormat = acceptsSmile(ex.getRequestHeaders().getFirst("Accept")) ? WireFormat.SMILE : WireFormat.JSON;
+
+            byte[] in;
+            try (InputStream is = ex.getRequestBody()) {
+                in = is.readAllBytes();
+            }
+            bytesIn.get(inFormat).addAndGet(in.length);
+            requests.get(inFormat).incrementAndGet();
+
+            int status = 200;
+            Object result;
+            try {
+                result = handler.handle(mapperFor(inFormat).readTree(in));
+            } catch (IllegalArgumentException | IOException e) {
+                status = 400;
+                result = Map.of("error", String.valueOf(e.getMessage()));
+            } catch (RuntimeException e) {
+                status = 500;
+                result = Map.of("error", "Internal server error");
+            }
+
+            byte[] out = mapperFor(outFormat).writeValueAsBytes(result);
+            bytesOut.get(outFormat).addAndGet(out.length);
+            ex.getResponseHeaders().set("Content-Type", outFormat.mediaType());
+            ex.sendResponseHeaders(status, out.length);
+            try (OutputStream os = ex.getResponseBody()) {
+                os.write(out);
+            }
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void stats(HttpExchange ex) throws IOException {
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            for (WireFormat f : WireFormat.values()) {
+                stats.put(f.name(), Map.of(
+                        "requests", requests.get(f).get(),
+                        "bytesIn", bytesIn.get(f).get(),
+                        "bytesOut", bytesOut.get(f).get()));
+            }
+            byte[] out = om.writeValueAsBytes(stats);
+            ex.getResponseHeaders().set("Content-Type", WireFormat.JSON.mediaType());
+            ex.sendResponseHeaders(200, out.length);
+            try (OutputStream os = ex.getResponseBody()) {
+                os.write(out);
+            }
+        } finally {
+            ex.close();
+        }
+    }
+
+    private Object register(JsonNode body) {
+        String userName = body.path("userName").asText();
+        if (userName.isEmpty()) throw new IllegalArgumentException("userName required");
+        if (passwords.putIfAbsent(userName, body.path("password").asText()) != null) {
+            throw new IllegalArgumentException("User exists");
+        }
+        User u = new User();
+        u.userName = userName;
+        return u;
+    }
+
+    private Object login(JsonNode body) {
+        String userName = body.path("userName").asText();
+        String pw = passwords.get(userName);
+        if (pw == null || !pw.equals(body.path("password").asText())) {
+            throw new IllegalArgumentException("Invalid credentials");
+        }
+        User u = new User();
+        u.userName = userName;
+        u.token = UUID.randomUUID().toString();
+        return u;
+    }
+
+    private Object newGame(JsonNode body) {
+        Game g = new Game();
+        g.token = body.path("token").asText();
+        g.gameType = body.path("gameType").asText();
+        g.difficulty = body.path("difficulty").asLong();
+        g.board = new long[ROWS][COLS];
+        g.result = false;
+        games.put(g.token, g);
+        return copy(g);
+    }
+
+    private Object move(JsonNode body) {
+        Game g = games.get(body.path("token").asText());
+        if (g == null) throw new IllegalArgumentException("No game");
+
+        synchronized (g) {
+            int col = body.path("col").asInt(-1);
+            if (g.result || col < 0 || col >= COLS || g.board[0][col] != 0) {
+                throw new IllegalArgumentException("Illegal move");
+            }
+            drop(g.board, col, 1);
+            if (hasFour(g.board, 1) || isFull(g.board)) {
+                g.result = true;
+                return copy(g);
+            }
+
+            drop(g.board, aiColumn(g.board), -1);
+            g.result = hasFour(g.board, -1) || isFull(g.board);
+            return copy(g);
+        }
+    }
+
+    private static Game copy(Game g) {
+        Game c = new Game();
+        c.token = g.token;
+        c.gameType = g.gameType;
+        c.difficulty = g.difficulty;
+        c.options = g.options;
+        c.result = g.result;
+        c.board = new long[ROWS][];
+        for (int r = 0; r < ROWS; r++) c.board[r] = g.board[r].clone();
+        return c;
+    }
+
+    private int aiColumn(long[][] board) {
+        List<Integer> legal = new ArrayList<>();
+        for (int c = 0; c < COLS; c++) if (board[0][c] == 0) legal.add(c);
+
+        for (long p : new long[]{-1, 1}) {
+            for (int c : legal) {
+                int r = drop(board, c, p);
+                boolean wins = hasFour(board, p);
+                board[r][c] = 0;
+                if (wins) return c;
+            }
+        }
+        return legal.get(ThreadLocalRandom.current().nextInt(legal.size()));
+    }
+
+    private static int drop(long[][] board, int col, long p) {
+        for (int r = ROWS - 1; r >= 0; r--) {
+            if (board[r][col] == 0) {
+                board[r][col] = p;
+                return r;
+            }
+        }
+        throw new IllegalArgumentException("Column full");
+    }
+
+    private static boolean isFull(long[][] board) {
+        for (int c = 0; c < COLS; c++) if (board[0][c] == 0) return false;
+        return true;
+    }
+
+    private static boolean hasFour(long[][] b, long p) {
+        for (int r = 0; r < ROWS; r++)
+            for (int c = 0; c < COLS; c++) {
+                if (c <= COLS - 4 && b[r][c] == p && b[r][c+1] == p && b[r][c+2] == p && b[r][c+3] == p) return true;
+                if (r <= ROWS - 4 && b[r][c] == p && b[r+1][c] == p && b[r+2][c] == p && b[r+3][c] == p) return true;
+                if (r <= ROWS - 4 && c <= COLS - 4 && b[r][c] == p && b[r+1][c+1] == p && b[r+2][c+2] == p && b[r+3][c+3] == p) return true;
+                if (r >= 3 && c <= COLS - 4 && b[r][c] == p && b[r-1][c+1] == p && b[r-2][c+2] == p && b[r-3][c+3] == p) return true;
+            }
+        return false;
+    }
+
+    private static boolean acceptsSmile(String accept) {
+        return accept != null && accept.toLowerCase().contains(WireFormat.SMILE.mediaType());
+    }
+
+    private ObjectMapper mapperFor(WireFormat format) {
+        return format == WireFormat.SMILE ? smile : om;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 50005;
+        LocalGameServer s = new LocalGameServer(port);
+        s.start();
+        System.out.println("Local game server on http://127.0.0.1:" + port + " (JSON + Smile, stats at /stats)");
+    }
+}
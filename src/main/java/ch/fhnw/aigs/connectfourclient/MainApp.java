@@ -1,9 +1,9 @@
 package ch.fhnw.aigs.connectfourclient;
 
 import javafx.animation.Interpolator;
-import javafx.animation.PauseTransition;
 import javafx.animation.TranslateTransition;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.geometry.Bounds;
 import javafx.geometry.Insets;
@@ -16,11 +16,18 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.prefs.Preferences;
 
 public class MainApp extends Application {
@@ -43,14 +50,35 @@ public class MainApp extends Application {
 
     private static final String PREF_SERVER_URL = "connectfour_server_url";
     private static final String DEFAULT_SERVER_URL = "http://127.0.0.1:50005";
+    // -Dconnectfour.smile=false keeps every request on JSON, e.g. to compare traffic against a Smile run
+    private static final String SMILE_PROPERTY = "connectfour.smile";
+
+    private static final String PREF_ANALYSIS_CPU_SHARE = "connectfour_analysis_cpu_share";
+    private static final String PREF_WALL_BOT_ID = "connectfour_wall_bot_id";
+    private static final String PREF_WALL_BOT_PASSWORD = "connectfour_wall_bot_password";
+    private static final double DEFAULT_ANALYSIS_CPU_SHARE = 0.5;
+    private static final int ANALYSIS_MAX_DEPTH = 18;
+
+    private static final int WALL_DEFAULT_BOARDS = 50;
+    private static final int WALL_MAX_BOARDS = 500;
+    private static final String WALL_SOURCE_LIVE = "Live bot games";
+    private static final String WALL_SOURCE_REPLAY = "Replay trace…";
 
     private final Preferences prefs = Preferences.userNodeForPackage(MainApp.class);
 
     private Stage stage;
 
 
-    private String serverUrl;
-    private ApiClient api;
+    private List<String> serverUrls;
+    private EndpointPool endpoints;
+    private Function<String, Transport> transports;
+    private ReplayTransport replay;
+    private boolean offerSmile;
+    private EndpointPool.Endpoint session;
+    private final AtomicBoolean endpointRefreshPending = new AtomicBoolean();
+    private MoveAnalyzer analyzer;
+    private AnimationScheduler animations;
+    private long analysisRun;
 
 
     private String token;
@@ -60,20 +88,40 @@ public class MainApp extends Application {
     private Game currentGame;
     private long[][] lastBoard;
 
+    private final List<MoveHistory> gameHistories = new ArrayList<>();
+    private MoveHistory history;
+    // the game shown on the timeline: the current one, or an earlier one picked for review
+    private MoveHistory viewed;
+    private long shownHuman;
+    private long shownAi;
+    private boolean viewingHistory;
+    private boolean updatingTimeline;
+
 
     private Label statusLabel;
+    private Label serverInfo;
+    private Label serverPill;
+    private Label frameStatsLabel;
+    private Slider timeline;
+    private Label timelineLabel;
+    private Spinner<Integer> gameSpinner;
+    private Button liveBtn;
     private ComboBox<Integer> difficultyBox;
     private ProgressIndicator busyIndicator;
 
     private Button newBtn;
     private Button logoutBtn;
     private Button settingsBtn;
+    private Button wallBtn;
+    private CheckBox analysisBox;
 
 
     private Circle[][] pieceCircles;
     private StackPane[][] cellPanes;
     private StackPane winnerBanner;
     private Label winnerBannerText;
+    private HBox heatmapBar;
+    private Label[] heatLabels;
 
 
     private ScrollPane boardScroll;
@@ -90,15 +138,69 @@ public class MainApp extends Application {
         stage.setMinWidth(680);
         stage.setMinHeight(640);
 
-        serverUrl = prefs.get(PREF_SERVER_URL, DEFAULT_SERVER_URL);
-        api = new ApiClient(serverUrl);
+        serverUrls = EndpointPool.parse(prefs.get(PREF_SERVER_URL, DEFAULT_SERVER_URL));
+        if (serverUrls.isEmpty()) serverUrls = List.of(DEFAULT_SERVER_URL);
+        transports = openTransports();
+        offerSmile = !"false".equalsIgnoreCase(System.getProperty(SMILE_PROPERTY));
+        startEndpoints();
+        analyzer = new MoveAnalyzer(prefs.getDouble(PREF_ANALYSIS_CPU_SHARE, DEFAULT_ANALYSIS_CPU_SHARE), ANALYSIS_MAX_DEPTH);
 
         showLoginScene();
         stage.show();
     }
 
+    @Override
+    public void stop() {
+        if (analyzer != null) analyzer.shutdown();
+        if (endpoints != null) endpoints.shutdown();
+        if (replay != null && replay.remaining() > 0) {
+            System.err.println("Replay ended with " + replay.remaining() + " recorded requests not replayed");
+        }
+    }
+
+    private void startEndpoints() {
+        if (endpoints != null) endpoints.shutdown();
+        endpoints = new EndpointPool(serverUrls, transports, offerSmile, () -> {
+            if (endpointRefreshPending.compareAndSet(false, true)) {
+                Platform.runLater(() -> {
+                    endpointRefreshPending.set(false);
+                    refreshEndpointStatus();
+                });
+            }
+        });
+        if (replay == null) endpoints.start();
+    }
+
+    private void reportUnplayedTrace() {
+        if (replay == null || replay.remaining() == 0) return;
+        alert("Replay", replay.remaining() + " recorded requests were not replayed in this session.");
+    }
+
+    private Function<String, Transport> openTransports() {
+        String replayFile = System.getProperty(Transport.REPLAY_PROPERTY);
+        String record = System.getProperty(Transport.RECORD_PROPERTY);
+        String file = replayFile != null ? replayFile : record;
+        if (file == null) return Transport.http();
+
+        try {
+            if (replayFile != null) {
+                boolean realTime = !"fast".equalsIgnoreCase(System.getProperty(Transport.REPLAY_SPEED_PROPERTY));
+                ReplayTransport t = new ReplayTransport(TraceRecorder.read(Path.of(replayFile)), realTime);
+                replay = t;
+                return url -> t;
+            }
+            return Transport.recording(Path.of(record));
+        } catch (IOException | InvalidPathException e) {
+            alert("Trace file", "Cannot open " + file + ": " + e.getMessage()
+                    + "\nConnecting to the server directly instead.");
+            return Transport.http();
+        }
+    }
+
 
     private void showLoginScene() {
+        if (animations != null) animations.stop();
+
         VBox root = new VBox(12);
         root.setPadding(new Insets(26));
         root.setAlignment(Pos.CENTER);
@@ -129,7 +231,7 @@ public class MainApp extends Application {
         stylePrimaryButton(loginBtn);
 
         Button settings = new Button("⚙");
-        settings.setTooltip(new Tooltip("Settings (Server URL)"));
+        settings.setTooltip(new Tooltip("Settings (Server URLs)"));
         styleIconButton(settings);
         settings.setOnAction(e -> openSettingsDialog(true));
 
@@ -137,7 +239,7 @@ public class MainApp extends Application {
         btnRow.setAlignment(Pos.CENTER);
 
         registerBtn.setOnAction(e -> runAsync(
-                () -> api.register(userField.getText().trim(), passField.getText()),
+                () -> endpoints.call(endpoints.best(), a -> a.register(userField.getText().trim(), passField.getText())),
                 ok -> {
                     info.setTextFill(Color.web("#15803D"));
                     info.setText("Registered successfully. Now login.");
@@ -149,10 +251,11 @@ public class MainApp extends Application {
         ));
 
         loginBtn.setOnAction(e -> runAsync(
-                () -> api.login(userField.getText().trim(), passField.getText()),
-                user -> {
-                    this.token = user.token;
-                    this.userName = user.userName;
+                () -> endpoints.callFirst(a -> a.login(userField.getText().trim(), passField.getText())),
+                pinned -> {
+                    this.session = pinned.endpoint();
+                    this.token = pinned.value().token;
+                    this.userName = pinned.value().userName;
                     showGameScene();
                 },
                 ex -> {
@@ -161,8 +264,10 @@ public class MainApp extends Application {
                 }
         ));
 
-        Label serverInfo = new Label("Server: " + serverUrl);
+        serverPill = null;
+        serverInfo = new Label();
         serverInfo.setStyle("-fx-text-fill: #64748B; -fx-font-size: 11px;");
+        refreshEndpointStatus();
 
         root.getChildren().addAll(title, subtitle, userField, passField, btnRow, info, serverInfo);
 
@@ -193,29 +298,43 @@ public class MainApp extends Application {
         newBtn = new Button("New Game");
         logoutBtn = new Button("Logout");
         settingsBtn = new Button("⚙");
-        settingsBtn.setTooltip(new Tooltip("Settings (Server URL)"));
+        settingsBtn.setTooltip(new Tooltip("Settings (Server URLs)"));
+
+        wallBtn = new Button("▦");
+        wallBtn.setTooltip(new Tooltip("Spectator wall"));
 
         stylePrimaryButton(newBtn);
         styleSecondaryButton(logoutBtn);
         styleIconButton(settingsBtn);
+        styleIconButton(wallBtn);
+
+        analysisBox = new CheckBox("Analysis");
+        analysisBox.setTooltip(new Tooltip("Show a background evaluation of every column"));
+        analysisBox.selectedProperty().addListener((obs, oldV, on) -> {
+            if (on) startAnalysis(currentGame);
+            else stopAnalysis();
+        });
 
         busyIndicator = new ProgressIndicator();
         busyIndicator.setPrefSize(18, 18);
         busyIndicator.setVisible(false);
 
         Label serverLabel = new Label("Server:");
-        Label serverPill = smallPill(serverUrl);
+        serverInfo = null;
+        serverPill = smallPill(session.getUrl());
 
         serverPill.setMaxWidth(360);
-        serverPill.setTooltip(new Tooltip(serverUrl));
+        serverPill.setTooltip(new Tooltip());
+        refreshEndpointStatus();
 
         top.getChildren().addAll(
                 userLbl,
                 new Label("Difficulty:"), difficultyBox,
                 new Separator(),
                 serverLabel, serverPill,
+                analysisBox,
                 busyIndicator,
-                settingsBtn, newBtn, logoutBtn
+                wallBtn, settingsBtn, newBtn, logoutBtn
         );
 
         root.setTop(top);
@@ -251,7 +370,9 @@ public class MainApp extends Application {
         winnerBanner.setStyle("-fx-background-radius: 16; -fx-background-color: rgba(15,23,42,0.92);");
         winnerBanner.setEffect(new DropShadow(14, Color.color(0, 0, 0, 0.35)));
 
-        boardStack = new StackPane(plate, grid, winnerBanner);
+        heatmapBar = buildHeatmapBar();
+
+        boardStack = new StackPane(plate, grid, heatmapBar, winnerBanner);
         boardStack.setAlignment(Pos.CENTER);
 
 
@@ -267,7 +388,41 @@ public class MainApp extends Application {
         boardCard.getChildren().add(boardScroll);
 
 
-        HBox statusBar = new HBox();
+        timelineLabel = new Label("Ply 0 / 0");
+        timelineLabel.setMinWidth(Region.USE_PREF_SIZE);
+        timelineLabel.setStyle("-fx-text-fill: #0F172A; -fx-font-weight: 700;");
+        timelineLabel.setTooltip(new Tooltip());
+
+        timeline = new Slider(0, 0, 0);
+        timeline.setMajorTickUnit(1);
+        timeline.setMinorTickCount(0);
+        timeline.setBlockIncrement(1);
+        timeline.setSnapToTicks(true);
+        timeline.valueProperty().addListener((obs, oldV, v) -> {
+            if (!updatingTimeline) showPly((int) Math.round(v.doubleValue()));
+        });
+        HBox.setHgrow(timeline, Priority.ALWAYS);
+
+        gameSpinner = new Spinner<>(1, 1, 1);
+        gameSpinner.setEditable(true);
+        gameSpinner.setPrefWidth(90);
+        gameSpinner.setTooltip(new Tooltip("Game to review"));
+        gameSpinner.valueProperty().addListener((obs, oldV, v) -> {
+            if (!updatingTimeline && v != null) showGame(v - 1);
+        });
+
+        liveBtn = new Button("Live");
+        styleSecondaryButton(liveBtn);
+        liveBtn.setDisable(true);
+        liveBtn.setOnAction(e -> showGame(gameHistories.size() - 1));
+
+        HBox timelineBar = new HBox(12, gameSpinner, timelineLabel, timeline, liveBtn);
+        timelineBar.setAlignment(Pos.CENTER_LEFT);
+        timelineBar.setPadding(new Insets(8, 12, 8, 12));
+        timelineBar.setStyle(cardStyle());
+
+
+        HBox statusBar = new HBox(12);
         statusBar.setAlignment(Pos.CENTER_LEFT);
         statusBar.setPadding(new Insets(10, 12, 10, 12));
         statusBar.setStyle(cardStyle());
@@ -275,10 +430,16 @@ public class MainApp extends Application {
         statusLabel = new Label("Click “New Game” to start.");
         statusLabel.setWrapText(true);
         statusLabel.setStyle("-fx-text-fill: #0F172A; -fx-font-weight: 700;");
-        statusLabel.maxWidthProperty().bind(statusBar.widthProperty().subtract(24));
-        statusBar.getChildren().add(statusLabel);
+        frameStatsLabel = smallPill("– fps");
+        frameStatsLabel.setMinWidth(Region.USE_PREF_SIZE);
+
+        Region statusSpacer = new Region();
+        HBox.setHgrow(statusSpacer, Priority.ALWAYS);
 
-        center.getChildren().addAll(boardCard, statusBar);
+        statusLabel.maxWidthProperty().bind(statusBar.widthProperty().subtract(36).subtract(frameStatsLabel.widthProperty()));
+        statusBar.getChildren().addAll(statusLabel, statusSpacer, frameStatsLabel);
+
+        center.getChildren().addAll(boardCard, timelineBar, statusBar);
 
 
         VBox.setVgrow(boardCard, Priority.ALWAYS);
@@ -288,13 +449,20 @@ public class MainApp extends Application {
 
         newBtn.setOnAction(e -> newGame());
         logoutBtn.setOnAction(e -> {
+            stopAnalysis();
+            session = null;
             token = null;
             userName = null;
             currentGame = null;
             lastBoard = null;
+            history = null;
+            viewed = null;
+            gameHistories.clear();
             showLoginScene();
+            reportUnplayedTrace();
         });
         settingsBtn.setOnAction(e -> openSettingsDialog(false));
+        wallBtn.setOnAction(e -> openSpectatorWallDialog());
 
         Scene scene = new Scene(root, 920, 820);
         stage.setScene(scene);
@@ -305,6 +473,8 @@ public class MainApp extends Application {
         updateBoardScale();
 
         setBoardInteractive(false);
+
+        animations = new AnimationScheduler(this::showFrameStats);
     }
 
 
@@ -369,6 +539,28 @@ public class MainApp extends Application {
         return grid;
     }
 
+    private HBox buildHeatmapBar() {
+        heatLabels = new Label[COLS];
+
+        HBox bar = new HBox(12);
+        bar.setPadding(new Insets(0, 20, 0, 20));
+        bar.setAlignment(Pos.TOP_CENTER);
+        bar.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        bar.setMouseTransparent(true);
+        bar.setVisible(false);
+        StackPane.setAlignment(bar, Pos.TOP_CENTER);
+
+        for (int c = 0; c < COLS; c++) {
+            Label l = new Label("");
+            l.setPrefWidth(CELL_SIZE);
+            l.setAlignment(Pos.CENTER);
+            l.setStyle(heatStyle(Color.TRANSPARENT));
+            heatLabels[c] = l;
+            bar.getChildren().add(l);
+        }
+        return bar;
+    }
+
     private void highlightColumn(int col, boolean on) {
         if (currentGame == null || currentGame.result) return;
         if (currentGame.board != null && currentGame.board[0][col] != 0) return;
@@ -383,18 +575,26 @@ public class MainApp extends Application {
     private void newGame() {
         int diff = difficultyBox.getValue();
         statusLabel.setText("Creating game...");
+        animations.finishAll();
         setBusy(true);
         hideWinnerBanner();
 
         runAsync(
-                () -> api.newGame(token, "ConnectFour", diff),
+                () -> endpoints.call(session, a -> a.newGame(token, "ConnectFour", diff)),
                 game -> {
                     currentGame = game;
                     lastBoard = deepCopy(game.board);
                     for (int c = 0; c < COLS; c++) fullCols[c] = false;
 
+                    if (history != null) history.trim();
+                    history = new MoveHistory();
+                    history.record(game.board);
+                    gameHistories.add(history);
+
                     renderBoard(game);
+                    updateTimeline();
                     statusLabel.setText("Your turn. Click a column on the board.");
+                    startAnalysis(game);
 
                     setBoardInteractive(true);
                     updateFullColumns(game.board);
@@ -421,16 +621,27 @@ public class MainApp extends Application {
             return;
         }
 
+        animations.inputUsed();
+        animations.finishAll();
+
         statusLabel.setText("Your move…");
         setBusy(true);
         setBoardInteractive(false);
+        stopAnalysis();
 
         runAsync(
-                () -> api.move(token, col),
+                () -> {
+                    long t0 = System.nanoTime();
+                    Game game = endpoints.call(session, a -> a.move(token, col));
+                    animations.recordLatency(System.nanoTime() - t0);
+                    return game;
+                },
                 game -> {
                     currentGame = game;
 
                     animateMoveUpdate(lastBoard, game.board);
+                    history.record(game.board);
+                    updateTimeline();
 
                     Winner w = determineWinner(game.board);
                     if (game.result) {
@@ -444,18 +655,16 @@ public class MainApp extends Application {
                     lastBoard = deepCopy(game.board);
                     updateFullColumns(game.board);
                     setBusy(false);
+                    startAnalysis(game);
 
-                    if (!game.result) {
-                        PauseTransition pt = new PauseTransition(Duration.millis(AI_DROP_DELAY_MS + 450));
-                        pt.setOnFinished(ev -> setBoardInteractive(true));
-                        pt.play();
-                    }
+                    if (!game.result) setBoardInteractive(true);
                 },
                 ex -> {
                     statusLabel.setText("Move failed: " + ex.getMessage());
                     setBoardInteractive(true);
                     if (currentGame != null) updateFullColumns(currentGame.board);
                     setBusy(false);
+                    startAnalysis(currentGame);
                 }
         );
     }
@@ -474,9 +683,13 @@ public class MainApp extends Application {
                 else piece.setFill(Color.TRANSPARENT);
             }
         }
+        markShown(game.board);
     }
 
     private void animateMoveUpdate(long[][] before, long[][] after) {
+        markShown(after);
+        animations.moveShown();
+
         List<CellChange> humanNew = new ArrayList<>();
         List<CellChange> aiNew = new ArrayList<>();
 
@@ -499,14 +712,104 @@ public class MainApp extends Application {
             }
         }
 
+        if (animations.shouldSkip()) {
+            for (CellChange cc : humanNew) placePiece(cc.row, cc.col, cc.value);
+            for (CellChange cc : aiNew) placePiece(cc.row, cc.col, cc.value);
+            return;
+        }
+
         for (CellChange cc : humanNew) {
             animateDrop(cc.row, cc.col, cc.value, Duration.millis(0));
         }
+        Duration aiDelay = animations.scale(AI_DROP_DELAY_MS);
         for (CellChange cc : aiNew) {
-            animateDrop(cc.row, cc.col, cc.value, Duration.millis(AI_DROP_DELAY_MS));
+            animateDrop(cc.row, cc.col, cc.value, aiDelay);
         }
     }
 
+    private void markShown(long[][] board) {
+        shownHuman = MoveAnalyzer.pack(board, 1);
+        shownAi = MoveAnalyzer.pack(board, -1);
+    }
+
+    private void updateTimeline() {
+        viewed = history;
+        updatingTimeline = true;
+        timeline.setMax(history.size());
+        timeline.setValue(history.size());
+        SpinnerValueFactory.IntegerSpinnerValueFactory games =
+                (SpinnerValueFactory.IntegerSpinnerValueFactory) gameSpinner.getValueFactory();
+        games.setMax(gameHistories.size());
+        games.setValue(gameHistories.size());
+        updatingTimeline = false;
+
+        viewingHistory = false;
+        liveBtn.setDisable(true);
+        timelineLabel.setText("Ply " + history.size() + " / " + history.size());
+
+        long bytes = 0;
+        for (MoveHistory h : gameHistories) bytes += h.byteSize();
+        timelineLabel.getTooltip().setText(gameHistories.size() + " games in history · " + bytes + " bytes");
+        applyInteractivity();
+    }
+
+    /** Puts an earlier game (or, for the last index, the current one) on the timeline at its final position. */
+    private void showGame(int index) {
+        if (index < 0 || index >= gameHistories.size()) return;
+        viewed = gameHistories.get(index);
+        updatingTimeline = true;
+        timeline.setMax(viewed.size());
+        timeline.setValue(viewed.size());
+        gameSpinner.getValueFactory().setValue(index + 1);
+        updatingTimeline = false;
+        showPly(viewed.size());
+    }
+
+    private void showPly(int ply) {
+        if (viewed == null) return;
+        boolean live = viewed == history && ply >= history.size();
+
+        animations.finishAll();
+        long[] target = viewed.position(ply);
+        long changed = (shownHuman ^ target[0]) | (shownAi ^ target[1]);
+        while (changed != 0) {
+            long bit = Long.lowestOneBit(changed);
+            changed &= ~bit;
+            int idx = Long.numberOfTrailingZeros(bit);
+            Circle piece = pieceCircles[ROWS - 1 - idx % (ROWS + 1)][idx / (ROWS + 1)];
+            piece.setTranslateY(0);
+            if ((target[0] & bit) != 0) piece.setFill(HUMAN_COLOR);
+            else if ((target[1] & bit) != 0) piece.setFill(AI_COLOR);
+            else piece.setFill(Color.TRANSPARENT);
+        }
+        shownHuman = target[0];
+        shownAi = target[1];
+
+        boolean wasViewing = viewingHistory;
+        viewingHistory = !live;
+        liveBtn.setDisable(live);
+        timelineLabel.setText("Ply " + Math.min(ply, viewed.size()) + " / " + viewed.size());
+        applyInteractivity();
+
+        if (!live && !wasViewing) {
+            stopAnalysis();
+            winnerBanner.setVisible(false);
+            statusLabel.setText("Reviewing earlier position. Press Live to continue.");
+        } else if (live && wasViewing) {
+            boolean over = currentGame != null && currentGame.result;
+            if (over) showWinnerBanner(determineWinner(currentGame.board));
+            statusLabel.setText(over ? "Game ended. Click New Game to play again." : "Your turn. Click a column on the board.");
+            startAnalysis(currentGame);
+        }
+    }
+
+    private void placePiece(int row, int col, long value) {
+        Circle piece = pieceCircles[row][col];
+        piece.setTranslateY(0);
+        if (value == 1) piece.setFill(HUMAN_COLOR);
+        else if (value == -1) piece.setFill(AI_COLOR);
+    }
+
     private void animateDrop(int row, int col, long value, Duration delay) {
         Circle piece = pieceCircles[row][col];
 
@@ -516,12 +819,111 @@ public class MainApp extends Application {
         double startY = - (ROWS * CELL_SIZE * 0.75);
         piece.setTranslateY(startY);
 
-        TranslateTransition tt = new TranslateTransition(Duration.millis(360 + row * 28), piece);
+        TranslateTransition tt = new TranslateTransition(animations.scale(360 + row * 28), piece);
         tt.setDelay(delay);
         tt.setFromY(startY);
         tt.setToY(0);
         tt.setInterpolator(Interpolator.EASE_IN);
-        tt.play();
+        animations.play(tt, () -> piece.setTranslateY(0));
+    }
+
+    private void showFrameStats(AnimationScheduler.FrameStats fs) {
+        if (fs.frames() == 0) return;
+        frameStatsLabel.setText(String.format("%.0f fps · p95 %.1f ms", 1000.0 / fs.avgMs(), fs.p95Ms()));
+        if (frameStatsLabel.getTooltip() == null) frameStatsLabel.setTooltip(new Tooltip());
+        frameStatsLabel.getTooltip().setText(String.format(
+                "Frames: %d\nAvg: %.1f ms\nP95: %.1f ms\nMax: %.1f ms\nDropped: %d\nServer RTT: %s\nAnimation speed: %.0f%%",
+                fs.frames(), fs.avgMs(), fs.p95Ms(), fs.maxMs(), fs.dropped(),
+                fs.latencyMs() < 0 ? "–" : String.format("%.0f ms", fs.latencyMs()),
+                fs.speed() * 100));
+    }
+
+
+    private void startAnalysis(Game game) {
+        if (analysisBox == null || !analysisBox.isSelected()
+                || game == null || game.board == null || game.result) {
+            stopAnalysis();
+            return;
+        }
+
+        long run = ++analysisRun;
+        analysisBox.setText("Analysis");
+        for (Label l : heatLabels) {
+            l.setText("…");
+            l.setStyle(heatStyle(Color.web("#94A3B8")));
+        }
+        heatmapBar.setVisible(true);
+
+        analyzer.analyze(deepCopy(game.board), new MoveAnalyzer.Listener() {
+            @Override
+            public void onScores(int depth, int[] scores) {
+                Platform.runLater(() -> {
+                    if (run == analysisRun) showHeatmap(depth, scores);
+                });
+            }
+
+            @Override
+            public void onFailure(Throwable cause) {
+                Platform.runLater(() -> {
+                    if (run != analysisRun) return;
+                    heatmapBar.setVisible(false);
+                    analysisBox.setText("Analysis failed");
+                });
+            }
+        });
+    }
+
+    private void stopAnalysis() {
+        analysisRun++;
+        if (analyzer != null) analyzer.cancel();
+        if (heatmapBar != null) heatmapBar.setVisible(false);
+        if (analysisBox != null) analysisBox.setText("Analysis");
+    }
+
+    private void showHeatmap(int depth, int[] scores) {
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int s : scores) {
+            if (s == MoveAnalyzer.ILLEGAL) continue;
+            min = Math.min(min, s);
+            max = Math.max(max, s);
+        }
+
+        for (int c = 0; c < COLS; c++) {
+            Label l = heatLabels[c];
+            int s = scores[c];
+            if (s == MoveAnalyzer.ILLEGAL) {
+                l.setText("");
+                l.setStyle(heatStyle(Color.TRANSPARENT));
+                continue;
+            }
+            double t = max == min ? 0.5 : (double) (s - min) / (max - min);
+            l.setText(formatScore(s));
+            l.setStyle(heatStyle(Color.web("#DC2626").interpolate(Color.web("#16A34A"), t)));
+        }
+        analysisBox.setText("Analysis (depth " + depth + ")");
+    }
+
+    private static String formatScore(int s) {
+        if (s > MoveAnalyzer.WIN - ROWS * COLS - 1) return "Win";
+        if (s < -MoveAnalyzer.WIN + ROWS * COLS + 1) return "Loss";
+        return (s > 0 ? "+" : "") + s;
+    }
+
+    private static String heatStyle(Color c) {
+        return "-fx-background-color: " + toWeb(c) + ";" +
+                "-fx-text-fill: white;" +
+                "-fx-font-size: 10px;" +
+                "-fx-font-weight: 800;" +
+                "-fx-padding: 1 4 1 4;" +
+                "-fx-background-radius: 999;";
+    }
+
+    private static String toWeb(Color c) {
+        return String.format("rgba(%d,%d,%d,%.2f)",
+                (int) Math.round(c.getRed() * 255),
+                (int) Math.round(c.getGreen() * 255),
+                (int) Math.round(c.getBlue() * 255),
+                c.getOpacity());
     }
 
 
@@ -590,6 +992,7 @@ public class MainApp extends Application {
 
     private void setBoardInteractive(boolean enabled) {
         boardEnabled = enabled;
+        if (enabled && animations != null) animations.inputReady();
         applyInteractivity();
     }
 
@@ -600,7 +1003,7 @@ public class MainApp extends Application {
 
         for (int r = 0; r < ROWS; r++) {
             for (int c = 0; c < COLS; c++) {
-                boolean disabled = !boardEnabled || gameOver || fullCols[c];
+                boolean disabled = !boardEnabled || gameOver || fullCols[c] || viewingHistory;
                 cellPanes[r][c].setDisable(disabled);
                 cellPanes[r][c].setOpacity(fullCols[c] ? 0.75 : 1.0);
                 cellPanes[r][c].setCursor(disabled ? Cursor.DEFAULT : Cursor.HAND);
@@ -614,6 +1017,8 @@ public class MainApp extends Application {
         logoutBtn.setDisable(busy);
         settingsBtn.setDisable(busy);
         difficultyBox.setDisable(busy);
+        timeline.setDisable(busy);
+        gameSpinner.setDisable(busy);
     }
 
 
@@ -625,38 +1030,188 @@ public class MainApp extends Application {
         ButtonType save = new ButtonType("Save", ButtonBar.ButtonData.OK_DONE);
         dialog.getDialogPane().getButtonTypes().addAll(save, ButtonType.CANCEL);
 
-        TextField urlField = new TextField(serverUrl);
+        TextArea urlField = new TextArea(String.join("\n", serverUrls));
         urlField.setPromptText("http://127.0.0.1:50005");
+        urlField.setPrefRowCount(4);
 
-        Label hint = new Label("Example: http://127.0.0.1:50005");
+        Label hint = new Label("One URL per line. New logins use the fastest healthy server.");
         hint.setStyle("-fx-text-fill: #64748B;");
 
-        VBox content = new VBox(8, new Label("Server URL:"), urlField, hint);
+        double cpuShare = prefs.getDouble(PREF_ANALYSIS_CPU_SHARE, DEFAULT_ANALYSIS_CPU_SHARE);
+        ComboBox<Integer> cpuBox = new ComboBox<>();
+        cpuBox.getItems().addAll(25, 50, 75, 100);
+        cpuBox.setValue((int) Math.round(cpuShare * 100));
+
+        VBox content = new VBox(8, new Label("Server URLs:"), urlField, hint,
+                new Label("Analysis CPU share (% of cores):"), cpuBox);
         content.setPadding(new Insets(12));
         dialog.getDialogPane().setContent(content);
 
         dialog.showAndWait().ifPresent(result -> {
             if (result == save) {
-                String newUrl = urlField.getText().trim();
-                if (!newUrl.startsWith("http://") && !newUrl.startsWith("https://")) {
-                    alert("Invalid URL", "Please include http:// or https://");
+                List<String> newUrls = EndpointPool.parse(urlField.getText());
+                if (newUrls.isEmpty()) {
+                    alert("Invalid URL", "Please enter at least one server URL.");
                     return;
                 }
+                for (String u : newUrls) {
+                    if (!u.startsWith("http://") && !u.startsWith("https://")) {
+                        alert("Invalid URL", "Please include http:// or https:// (" + u + ")");
+                        return;
+                    }
+                }
+
+                double newShare = cpuBox.getValue() / 100.0;
+                if (newShare != cpuShare) {
+                    stopAnalysis();
+                    prefs.putDouble(PREF_ANALYSIS_CPU_SHARE, newShare);
+                    analyzer.shutdown();
+                    analyzer = new MoveAnalyzer(newShare, ANALYSIS_MAX_DEPTH);
+                    startAnalysis(currentGame);
+                }
+
+                if (newUrls.equals(serverUrls)) return;
 
-                serverUrl = newUrl;
-                prefs.put(PREF_SERVER_URL, serverUrl);
-                api = new ApiClient(serverUrl);
+                serverUrls = newUrls;
+                prefs.put(PREF_SERVER_URL, String.join(",", serverUrls));
+                startEndpoints();
+                stopAnalysis();
 
+                session = null;
                 token = null;
                 userName = null;
                 currentGame = null;
                 lastBoard = null;
+                history = null;
+                viewed = null;
+                gameHistories.clear();
 
                 showLoginScene();
             }
         });
     }
 
+    private void openSpectatorWallDialog() {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Spectator wall");
+        dialog.setHeaderText("Watch many games at once");
+
+        ButtonType open = new ButtonType("Open", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(open, ButtonType.CANCEL);
+
+        Spinner<Integer> countBox = new Spinner<>(1, WALL_MAX_BOARDS, WALL_DEFAULT_BOARDS);
+        countBox.setEditable(true);
+
+        ComboBox<String> sourceBox = new ComboBox<>();
+        if (replay == null) sourceBox.getItems().add(WALL_SOURCE_LIVE);
+        sourceBox.getItems().add(WALL_SOURCE_REPLAY);
+        sourceBox.setValue(sourceBox.getItems().get(0));
+
+        Label hint = new Label(replay != null
+                ? "Live boards are not available while the app replays a trace."
+                : "Live boards play random moves on the fastest server as bot users. The first wall registers "
+                        + "one account per board (wall-" + wallBotId() + "-1, -2, …); later walls reuse them.");
+        hint.setWrapText(true);
+        hint.setMaxWidth(360);
+        hint.setStyle("-fx-text-fill: #64748B;");
+
+        VBox content = new VBox(8, new Label("Boards:"), countBox, new Label("Source:"), sourceBox, hint);
+        content.setPadding(new Insets(12));
+        dialog.getDialogPane().setContent(content);
+
+        dialog.showAndWait().ifPresent(result -> {
+            if (result != open) return;
+
+            int count = countBox.getValue();
+            List<BoardFeed> feeds = new ArrayList<>();
+            String title;
+            EndpointPool botPool = null;
+
+            if (WALL_SOURCE_REPLAY.equals(sourceBox.getValue())) {
+                FileChooser chooser = new FileChooser();
+                chooser.setTitle("Open trace");
+                java.io.File file = chooser.showOpenDialog(stage);
+                if (file == null) return;
+
+                ReplayFeed.Positions positions;
+                try {
+                    positions = ReplayFeed.decode(TraceRecorder.read(file.toPath()));
+                } catch (IOException ex) {
+                    alert("Replay failed", ex.getMessage());
+                    return;
+                }
+                if (positions.size() == 0) {
+                    alert("Replay failed", "The trace contains no games.");
+                    return;
+                }
+                for (int i = 0; i < count; i++) feeds.add(new ReplayFeed(positions, i * positions.size() / count));
+                title = "Spectator wall – " + file.getName();
+            } else {
+                String prefix = "wall-" + wallBotId() + "-";
+                String password = wallBotPassword();
+                // bots talk to the servers directly so their games never end up in a recorded trace
+                botPool = new EndpointPool(serverUrls, Transport.http(), offerSmile, () -> {});
+                botPool.start();
+                for (int i = 0; i < count; i++) feeds.add(new SessionFeed(botPool, prefix + (i + 1), password));
+                title = "Spectator wall – live";
+            }
+
+            SpectatorWall wall = new SpectatorWall(title, feeds);
+            if (botPool != null) wall.setOnClosed(botPool::shutdown);
+            wall.show();
+        });
+    }
+
+    private String wallBotId() {
+        String id = prefs.get(PREF_WALL_BOT_ID, null);
+        if (id == null) {
+            id = UUID.randomUUID().toString().substring(0, 8);
+            prefs.put(PREF_WALL_BOT_ID, id);
+        }
+        return id;
+    }
+
+    private String wallBotPassword() {
+        String pw = prefs.get(PREF_WALL_BOT_PASSWORD, null);
+        if (pw == null) {
+            pw = UUID.randomUUID().toString();
+            prefs.put(PREF_WALL_BOT_PASSWORD, pw);
+        }
+        return pw;
+    }
+
+    private void refreshEndpointStatus() {
+        StringBuilder summary = new StringBuilder();
+        for (EndpointPool.Endpoint e : endpoints.getEndpoints()) {
+            if (summary.length() > 0) summary.append('\n');
+            summary.append(endpointLine(e));
+        }
+
+        if (serverInfo != null) {
+            serverInfo.setText(summary.toString());
+        }
+        if (serverPill != null && session != null) {
+            serverPill.setText(endpointLine(session));
+            serverPill.getTooltip().setText(summary + "\n\n" + wireLine(session.getApi()));
+        }
+    }
+
+    private String wireLine(ApiClient api) {
+        return String.format("%s%s · %,d bytes sent · %,d bytes received",
+                api.getWireFormat(), offerSmile ? "" : " (Smile off)", api.getBytesSent(), api.getBytesReceived());
+    }
+
+    private static String endpointLine(EndpointPool.Endpoint e) {
+        String dot = switch (e.getState()) {
+            case HEALTHY -> "🟢";
+            case DEGRADED, HALF_OPEN -> "🟡";
+            case OPEN -> "🔴";
+            default -> "⚪";
+        };
+        double latency = e.getLatencyMs();
+        return dot + " " + e.getUrl() + (latency < 0 ? "" : String.format(" · %.0f ms", latency));
+    }
+
     private void alert(String title, String msg) {
         Alert a = new Alert(Alert.AlertType.INFORMATION);
         a.setTitle(title);
@@ -0,0 +1,54 @@
+package ch.fhnw.aigs.connectfourclient;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fixed-size state of one board on the spectator wall: two packed bitboards and a few status fields.
+ * Feeds write from background threads; the wall reads a consistent snapshot when the board is dirty.
+ */
+public class MiniBoard {
+
+    public record Snapshot(long human, long ai, int ply, String status, double latencyMs) {}
+
+    private final int id;
+    private long human;
+    private long ai;
+    private int ply;
+    private String status = "starting";
+    private double latencyMs = -1;
+
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+
+    public MiniBoard(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public synchronized void update(long human, long ai, boolean finished, long latencyNanos) {
+        this.human = human;
+        this.ai = ai;
+        ply = Long.bitCount(human | ai);
+        latencyMs = latencyNanos / 1_000_000.0;
+        if (!finished) status = "playing";
+        else if (MoveAnalyzer.won(human)) status = "human wins";
+        else if (MoveAnalyzer.won(ai)) status = "AI wins";
+        else status = "draw";
+        dirty.set(true);
+    }
+
+    public synchronized void status(String status) {
+        this.status = status;
+        dirty.set(true);
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(human, ai, ply, status, latencyMs);
+    }
+
+    public boolean takeDirty() {
+        return dirty.getAndSet(false);
+    }
+}
@@ -0,0 +1,269 @@
+package ch.fhnw.aigs.connectfourclient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background iterative-deepening evaluation of all columns for the side to move (the human).
+ * Each depth is published through the listener; a new position or cancel() stops the running search.
+ * The transposition table survives across positions so earlier searches speed up the next one.
+ */
+public class MoveAnalyzer {
+
+    public static final int ROWS = 6;
+    public static final int COLS = 7;
+
+    public static final int WIN = 100_000;
+    public static final int ILLEGAL = Integer.MIN_VALUE;
+
+    private static final int[] ORDER = {3, 2, 4, 1, 5, 0, 6};
+    private static final long[] WINDOWS = buildWindows();
+
+    private static final int TT_BITS = 18;
+    private static final int FLAG_EXACT = 0;
+    private static final int FLAG_LOWER = 1;
+    private static final int FLAG_UPPER = 2;
+
+    @FunctionalInterface
+    public interface Listener {
+        void onScores(int depth, int[] scores);
+
+        /** Called instead of further scores when the search itself fails (not when it is cancelled). */
+        default void onFailure(Throwable cause) {}
+    }
+
+    private final ExecutorService workers;
+    private final ExecutorService coordinator;
+    private final int maxDepth;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Future<?> running;
+
+    private final long[] ttKeys = new long[1 << TT_BITS];
+    private final long[] ttData = new long[1 << TT_BITS];
+
+    public MoveAnalyzer(double cpuShare, int maxDepth) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int threads = Math.max(1, Math.min(COLS, (int) Math.floor(cores * cpuShare)));
+        this.workers = Executors.newFixedThreadPool(threads, daemonFactory("analysis-worker"));
+        this.coordinator = Executors.newSingleThreadExecutor(daemonFactory("analysis"));
+        this.maxDepth = maxDepth;
+    }
+
+    public void analyze(long[][] board, Listener listener) {
+        long gen = generation.incrementAndGet();
+        Future<?> prev = running;
+        if (prev != null) prev.cancel(true);
+
+        long cur = pack(board, 1);
+        long mask = cur | pack(board, -1);
+        running = coordinator.submit(() -> deepen(cur, mask, gen, listener));
+    }
+
+    public void cancel() {
+        generation.incrementAndGet();
+        Future<?> prev = running;
+        if (prev != null) prev.cancel(true);
+    }
+
+    public void shutdown() {
+        cancel();
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void deepen(long cur, long mask, long gen, Listener listener) {
+        int empties = ROWS * COLS - Long.bitCount(mask);
+        int limit = Math.min(maxDepth, empties);
+
+        for (int depth = 1; depth <= limit; depth++) {
+            int d = depth;
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int c = 0; c < COLS; c++) {
+                int col = c;
+                futures.add(canPlay(mask, col)
+                        ? workers.submit(() -> rootScore(cur, mask, col, d, gen))
+                        : null);
+            }
+
+            int[] scores = new int[COLS];
+            try {
+                for (int c = 0; c < COLS; c++) {
+                    Future<Integer> f = futures.get(c);
+                    scores[c] = f == null ? ILLEGAL : f.get();
+                }
+            } catch (InterruptedException | CancellationException e) {
+                // cancelled or superseded by a newer position; partial results are discarded
+                futures.forEach(f -> { if (f != null) f.cancel(true); });
+                return;
+            } catch (ExecutionException e) {
+                futures.forEach(f -> { if (f != null) f.cancel(true); });
+                if (!(e.getCause() instanceof CancellationException) && generation.get() == gen) {
+                    listener.onFailure(e.getCause());
+                }
+                return;
+            }
+
+            if (generation.get() != gen) return;
+            listener.onScores(depth, scores);
+        }
+    }
+
+    private int rootScore(long cur, long mask, int col, int depth, long gen) {
+        long move = (mask + bottom(col)) & columnMask(col);
+        if (won(cur | move)) return WIN - Long.bitCount(mask | move);
+        return -negamax(cur ^ mask, mask | move, depth - 1, -WIN - 1, WIN + 1, gen);
+    }
+
+    private int negamax(long cur, long mask, int depth, int alpha, int beta, long gen) {
+        if (generation.get() != gen) throw new CancellationException();
+
+        int played = Long.bitCount(mask);
+        if (played == ROWS * COLS) return 0;
+
+        for (int c = 0; c < COLS; c++) {
+            if (canPlay(mask, c) && won(cur | ((mask + bottom(c)) & columnMask(c)))) {
+                return WIN - (played + 1);
+            }
+        }
+        if (depth == 0) return evaluate(cur, mask);
+
+        long key = cur + mask;
+        int slot = (int) (key * 0x9E3779B97F4A7C15L >>> (64 - TT_BITS));
+        long data = ttData[slot];
+        if ((ttKeys[slot] ^ data) == key && ttDepth(data) >= depth) {
+            int s = ttScore(data);
+            int flag = ttFlag(data);
+            if (flag == FLAG_EXACT) return s;
+            if (flag == FLAG_LOWER && s >= beta) return s;
+            if (flag == FLAG_UPPER && s <= alpha) return s;
+        }
+
+        int origAlpha = alpha;
+        int best = -WIN - 1;
+        for (int c : ORDER) {
+            if (!canPlay(mask, c)) continue;
+            long next = mask | (mask + bottom(c));
+            int score = -negamax(cur ^ mask, next, depth - 1, -beta, -alpha, gen);
+            if (score > best) best = score;
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) break;
+        }
+
+        int flag = best <= origAlpha ? FLAG_UPPER : best >= beta ? FLAG_LOWER : FLAG_EXACT;
+        long packed = ((long) (best + (1 << 20)) & 0x1FFFFFL) | ((long) depth << 21) | ((long) flag << 27);
+        ttKeys[slot] = key ^ packed;
+        ttData[slot] = packed;
+        return best;
+    }
+
+    private static int evaluate(long cur, long mask) {
+        long opp = cur ^ mask;
+        int score = 0;
+        for (long w : WINDOWS) {
+            int mine = Long.bitCount(cur & w);
+            int theirs = Long.bitCount(opp & w);
+            if (mine > 0 && theirs > 0) continue;
+            if (mine == 3) score += 5;
+            else if (mine == 2) score += 2;
+            else if (theirs == 3) score -= 5;
+            else if (theirs == 2) score -= 2;
+        }
+        score += 3 * (Long.bitCount(cur & columnMask(3)) - Long.bitCount(opp & columnMask(3)));
+        return score;
+    }
+
+    private static int ttScore(long data) {
+        return (int) (data & 0x1FFFFFL) - (1 << 20);
+    }
+
+    private static int ttDepth(long data) {
+        return (int) ((data >>> 21) & 0x3F);
+    }
+
+    private static int ttFlag(long data) {
+        return (int) ((data >>> 27) & 0x3);
+    }
+
+    /** Packs one player's stones into a column-major bitboard (7 bits per column, bit 0 = bottom row). */
+    static long pack(long[][] board, long player) {
+        long bits = 0;
+        for (int r = 0; r < ROWS; r++) {
+            for (int c = 0; c < COLS; c++) {
+                if (board[r][c] == player) bits |= bit(r, c);
+            }
+        }
+        return bits;
+    }
+
+    /** The bit a stone dropped into col would occupy, or 0 if the column is full. */
+    static long dropBit(long mask, int col) {
+        return canPlay(mask, col) ? (mask + bottom(col)) & columnMask(col) : 0;
+    }
+
+    static long bit(int row, int col) {
+        return 1L << (col * (ROWS + 1) + ROWS - 1 - row);
+    }
+
+    private static boolean canPlay(long mask, int col) {
+        return (mask & topMask(col)) == 0;
+    }
+
+    private static long bottom(int col) {
+        return 1L << (col * (ROWS + 1));
+    }
+
+    private static long topMask(int col) {
+        return 1L << (ROWS - 1 + col * (ROWS + 1));
+    }
+
+    private static long columnMask(int col) {
+        return ((1L << ROWS) - 1) << (col * (ROWS + 1));
+    }
+
+    static boolean won(long p) {
+        long m = p & (p >>> (ROWS + 1));
+        if ((m & (m >>> (2 * (ROWS + 1)))) != 0) return true;
+        m = p & (p >>> ROWS);
+        if ((m & (m >>> (2 * ROWS))) != 0) return true;
+        m = p & (p >>> (ROWS + 2));
+        if ((m & (m >>> (2 * (ROWS + 2)))) != 0) return true;
+        m = p & (p >>> 1);
+        return (m & (m >>> 2)) != 0;
+    }
+
+    private static long[] buildWindows() {
+        List<Long> windows = new ArrayList<>();
+        int[][] dirs = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+        for (int c = 0; c < COLS; c++) {
+            for (int h = 0; h < ROWS; h++) {
+                for (int[] d : dirs) {
+                    int ec = c + 3 * d[0], eh = h + 3 * d[1];
+                    if (ec >= COLS || eh < 0 || eh >= ROWS) continue;
+                    long w = 0;
+                    for (int i = 0; i < 4; i++) w |= 1L << ((c + i * d[0]) * (ROWS + 1) + h + i * d[1]);
+                    windows.add(w);
+                }
+            }
+        }
+        return windows.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static ThreadFactory daemonFactory(String name) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package ch.fhnw.aigs.connectfourclient;
+
+import java.util.Arrays;
+
+/**
+ * Compact move list for one game: one byte per ply (column plus a bit for the AI) and a packed
+ * two-bitboard snapshot every SNAPSHOT_INTERVAL plies, so any ply is rebuilt from at most
+ * SNAPSHOT_INTERVAL - 1 replayed moves.
+ */
+public class MoveHistory {
+
+    private static final int SNAPSHOT_INTERVAL = 16;
+    private static final byte AI_FLAG = 0x08;
+    private static final byte COL_MASK = 0x07;
+
+    private byte[] moves = new byte[8];
+    private int size;
+
+    // human/ai bitboard pairs for plies SNAPSHOT_INTERVAL, 2 * SNAPSHOT_INTERVAL, ...
+    private long[] snapshots = new long[0];
+
+    private long human;
+    private long ai;
+
+    public int size() {
+        return size;
+    }
+
+    /** Appends every stone on the board that is not recorded yet; human stones first, as they are played. */
+    public void record(long[][] board) {
+        if (board == null) return;
+        appendAll(MoveAnalyzer.pack(board, 1) & ~human, false);
+        appendAll(MoveAnalyzer.pack(board, -1) & ~ai, true);
+    }
+
+    /** Returns {human, ai} bitboards at the given ply (0 = empty board). */
+    public long[] position(int ply) {
+        ply = Math.max(0, Math.min(ply, size));
+        if (ply == size) return new long[]{human, ai};
+
+        int snap = ply / SNAPSHOT_INTERVAL;
+        long h = snap == 0 ? 0 : snapshots[2 * (snap - 1)];
+        long a = snap == 0 ? 0 : snapshots[2 * (snap - 1) + 1];
+        for (int i = snap * SNAPSHOT_INTERVAL; i < ply; i++) {
+            long bit = MoveAnalyzer.dropBit(h | a, moves[i] & COL_MASK);
+            if ((moves[i] & AI_FLAG) != 0) a |= bit;
+            else h |= bit;
+        }
+        return new long[]{h, a};
+    }
+
+    public void trim() {
+        moves = Arrays.copyOf(moves, size);
+    }
+
+    /** Approximate heap footprint: object plus the two arrays with their headers. */
+    public int byteSize() {
+        return 48 + 16 + moves.length + 16 + snapshots.length * 8;
+    }
+
+    private void appendAll(long newStones, boolean isAi) {
+        // lowest bit first: within a column that is the lower stone, which was played earlier
+        while (newStones != 0) {
+            long bit = Long.lowestOneBit(newStones);
+            newStones &= ~bit;
+            append(Long.numberOfTrailingZeros(bit) / (MoveAnalyzer.ROWS + 1), isAi, bit);
+        }
+    }
+
+    private void append(int col, boolean isAi, long bit) {
+        if (size == moves.length) moves = Arrays.copyOf(moves, Math.max(8, size * 2));
+        moves[size++] = (byte) (col | (isAi ? AI_FLAG : 0));
+        if (isAi) ai |= bit;
+        else human |= bit;
+
+        if (size % SNAPSHOT_INTERVAL == 0) {
+            snapshots = Arrays.copyOf(snapshots, snapshots.length + 2);
+            snapshots[snapshots.length - 2] = human;
+            snapshots[snapshots.length - 1] = ai;
+        }
+    }
+}
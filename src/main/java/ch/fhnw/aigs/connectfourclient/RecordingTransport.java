@@ -0,0 +1,20 @@
+package ch.fhnw.aigs.connectfourclient;
+
+public class RecordingTransport implements Transport {
+
+    private final Transport delegate;
+    private final TraceRecorder recorder;
+
+    public RecordingTransport(Transport delegate, TraceRecorder recorder) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Response exchange(Request request) throws Exception {
+        long t0 = System.nanoTime();
+        Response response = delegate.exchange(request);
+        recorder.append(request, response, t0, System.nanoTime() - t0);
+        return response;
+    }
+}
@@ -0,0 +1,76 @@
+package ch.fhnw.aigs.connectfourclient;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Feeds a mini-board from a recorded trace. The trace is decoded once into packed positions that all
+ * replay boards share; each feed only keeps its cursor and loops over the recorded games.
+ */
+public class ReplayFeed implements BoardFeed {
+
+    private static final long MOVE_DELAY_MS = 300;
+    private static final long RESULT_PAUSE_MS = 2000;
+
+    /** Board after every recorded game response: a human/ai bitboard pair, the server latency and whether the game was over. */
+    public static final class Positions {
+        private long[] boards = new long[64];
+        private long[] latencyNanos = new long[32];
+        private final BitSet finished = new BitSet();
+        private int size;
+
+        public int size() {
+            return size;
+        }
+
+        private void add(long human, long ai, long latency, boolean over) {
+            if (size == latencyNanos.length) {
+                boards = Arrays.copyOf(boards, size * 4);
+                latencyNanos = Arrays.copyOf(latencyNanos, size * 2);
+            }
+            boards[2 * size] = human;
+            boards[2 * size + 1] = ai;
+            latencyNanos[size] = latency;
+            finished.set(size, over);
+            size++;
+        }
+
+        private Positions trim() {
+            boards = Arrays.copyOf(boards, 2 * size);
+            latencyNanos = Arrays.copyOf(latencyNanos, size);
+            return this;
+        }
+    }
+
+    public static Positions decode(List<TraceRecorder.Entry> trace) throws IOException {
+        Positions positions = new Positions();
+        for (TraceRecorder.Entry e : trace) {
+            if (e.status() >= 400 || !(e.path().equals("/game/new") || e.path().equals("/game/move"))) continue;
+
+            Game game = TraceRecorder.mapperFor(e.responseContentType()).readValue(e.responseBody(), Game.class);
+            if (game.board == null) continue;
+            positions.add(MoveAnalyzer.pack(game.board, 1), MoveAnalyzer.pack(game.board, -1), e.durationNanos(), game.result);
+        }
+        return positions.trim();
+    }
+
+    private final Positions positions;
+    private int next;
+
+    public ReplayFeed(Positions positions, int start) {
+        this.positions = positions;
+        this.next = start % positions.size();
+    }
+
+    @Override
+    public long step(MiniBoard board) {
+        int i = next;
+        next = (i + 1) % positions.size();
+
+        boolean over = positions.finished.get(i);
+        board.update(positions.boards[2 * i], positions.boards[2 * i + 1], over, positions.latencyNanos[i]);
+        return over ? RESULT_PAUSE_MS : MOVE_DELAY_MS;
+    }
+}
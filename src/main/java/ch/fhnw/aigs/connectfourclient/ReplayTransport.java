@@ -0,0 +1,58 @@
+package ch.fhnw.aigs.connectfourclient;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves a recorded trace instead of talking to a server. Responses are handed out per path in
+ * recorded order, and only to a request whose body matches the recorded one. In real-time mode a
+ * response is held back until its recorded offset from the start of the trace, and at least for
+ * the recorded server latency.
+ */
+public class ReplayTransport implements Transport {
+
+    private final Map<String, ArrayDeque<TraceRecorder.Entry>> byPath = new HashMap<>();
+    private final boolean realTime;
+    private long startNanos;
+
+    public ReplayTransport(List<TraceRecorder.Entry> entries, boolean realTime) {
+        for (TraceRecorder.Entry e : entries) {
+            byPath.computeIfAbsent(e.path(), p -> new ArrayDeque<>()).add(e);
+        }
+        this.realTime = realTime;
+    }
+
+    @Override
+    public Response exchange(Request request) throws Exception {
+        byte[] body = TraceRecorder.redact(request.contentType(), request.body());
+        TraceRecorder.Entry e;
+        long start;
+        synchronized (byPath) {
+            ArrayDeque<TraceRecorder.Entry> queue = byPath.get(request.path());
+            e = queue == null ? null : queue.peek();
+            if (e == null) throw new IllegalStateException("Replay exhausted for " + request.path());
+            if (!Arrays.equals(body, e.requestBody())) {
+                throw new IllegalStateException("Replay diverged at " + request.path() + ": request does not match the recording");
+            }
+            queue.poll();
+            if (startNanos == 0) startNanos = System.nanoTime() - e.offsetNanos();
+            start = startNanos;
+        }
+
+        if (realTime) {
+            long due = start + e.offsetNanos() + e.durationNanos() - System.nanoTime();
+            TimeUnit.NANOSECONDS.sleep(Math.max(due, e.durationNanos()));
+        }
+        return new Response(e.status(), e.responseContentType(), e.responseBody());
+    }
+
+    public int remaining() {
+        synchronized (byPath) {
+            return byPath.values().stream().mapToInt(ArrayDeque::size).sum();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ch.fhnw.aigs.connectfourclient;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Plays live games against a server as a bot user, choosing random legal columns. Between steps only the
+ * session token and the packed position are kept; requests go through the endpoint's shared ApiClient.
+ */
+public class SessionFeed implements BoardFeed {
+
+    private static final long MOVE_DELAY_MS = 400;
+    private static final long RESULT_PAUSE_MS = 2000;
+
+    private final EndpointPool endpoints;
+    private final String userName;
+    private final String password;
+
+    private EndpointPool.Endpoint session;
+    private String token;
+    private boolean inGame;
+    private long human;
+    private long ai;
+
+    public SessionFeed(EndpointPool endpoints, String userName, String password) {
+        this.endpoints = endpoints;
+        this.userName = userName;
+        this.password = password;
+    }
+
+    @Override
+    public long step(MiniBoard board) throws Exception {
+        try {
+            return advance(board);
+        } catch (Exception e) {
+            token = null;
+            inGame = false;
+            throw e;
+        }
+    }
+
+    private long advance(MiniBoard board) throws Exception {
+        if (token == null) {
+            board.status("logging in");
+            EndpointPool.Endpoint e = endpoints.best();
+            try {
+                endpoints.call(e, a -> a.register(userName, password));
+            } catch (ApiClient.HttpStatusException alreadyRegistered) {
+                if (alreadyRegistered.getStatusCode() >= 500) throw alreadyRegistered;
+            }
+            token = endpoints.call(e, a -> a.login(userName, password)).token;
+            session = e;
+            return 0;
+        }
+
+        long t0 = System.nanoTime();
+        Game game;
+        if (!inGame) {
+            game = endpoints.call(session, a -> a.newGame(token, "ConnectFour", 1));
+        } else {
+            int col = randomLegalColumn(human | ai);
+            game = endpoints.call(session, a -> a.move(token, col));
+        }
+        long latency = System.nanoTime() - t0;
+
+        if (game.board != null) {
+            human = MoveAnalyzer.pack(game.board, 1);
+            ai = MoveAnalyzer.pack(game.board, -1);
+        }
+        inGame = !game.result;
+        board.update(human, ai, game.result, latency);
+        return game.result ? RESULT_PAUSE_MS : MOVE_DELAY_MS;
+    }
+
+    private static int randomLegalColumn(long filled) {
+        int[] legal = new int[MoveAnalyzer.COLS];
+        int n = 0;
+        for (int c = 0; c < MoveAnalyzer.COLS; c++) {
+            if ((filled & MoveAnalyzer.bit(0, c)) == 0) legal[n++] = c;
+        }
+        return legal[ThreadLocalRandom.current().nextInt(n)];
+    }
+}
@@ -0,0 +1,221 @@
+package ch.fhnw.aigs.connectfourclient;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.stage.Stage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Monitoring window with many live mini-boards drawn onto a single viewport-sized canvas.
+ * Boards are repainted in one batch per frame (capped at 20 fps) and only when their state changed.
+ * The canvas never grows beyond the window. Per board only a fixed-size MiniBoard and the feed's own
+ * state are kept (a cursor into shared replay positions, or a token and packed position for a live bot);
+ * decoded traces and ApiClients are shared, and MainApp caps a wall at WALL_MAX_BOARDS boards.
+ */
+public class SpectatorWall {
+
+    private static final int ROWS = MoveAnalyzer.ROWS;
+    private static final int COLS = MoveAnalyzer.COLS;
+
+    private static final double CELL = 16;
+    private static final double TILE_W = COLS * CELL + 24;
+    private static final double TILE_H = ROWS * CELL + 46;
+
+    private static final long FRAME_INTERVAL_NS = 50_000_000L;
+    private static final int FEED_THREADS = 4;
+    private static final long ERROR_BACKOFF_MS = 3000;
+    private static final long STAGGER_MS = 40;
+
+    private static final Color BACKGROUND = Color.web("#F8FAFC");
+    private static final Color BOARD_BLUE = Color.web("#1D4ED8");
+    private static final Color HUMAN_COLOR = Color.web("#EF4444");
+    private static final Color AI_COLOR = Color.web("#3B82F6");
+    private static final Color EMPTY_HOLE = Color.web("#E8EEF6");
+    private static final Font TITLE_FONT = Font.font("System", FontWeight.BOLD, 10);
+    private static final Font STATUS_FONT = Font.font("System", 10);
+
+    private final Stage stage = new Stage();
+    private final List<MiniBoard> boards = new ArrayList<>();
+    private final ScheduledExecutorService feeds;
+
+    private final Canvas canvas = new Canvas();
+    private final ScrollBar scroll = new ScrollBar();
+    private final Label summary = new Label();
+
+    private volatile boolean closed;
+    private Runnable onClosed;
+    private boolean fullRepaint = true;
+    private int columns;
+    private int firstRow;
+
+    private long lastFrame;
+    private long lastSummary;
+    private int tilesPainted;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (now - lastFrame < FRAME_INTERVAL_NS) return;
+            lastFrame = now;
+            render(now);
+        }
+    };
+
+    public SpectatorWall(String title, List<BoardFeed> feedList) {
+        AtomicInteger n = new AtomicInteger();
+        feeds = Executors.newScheduledThreadPool(FEED_THREADS, r -> {
+            Thread t = new Thread(r, "wall-feed-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        for (int i = 0; i < feedList.size(); i++) {
+            MiniBoard b = new MiniBoard(i + 1);
+            boards.add(b);
+            schedule(b, feedList.get(i), i * STAGGER_MS);
+        }
+
+        Pane canvasHolder = new Pane(canvas);
+        canvas.widthProperty().bind(canvasHolder.widthProperty());
+        canvas.heightProperty().bind(canvasHolder.heightProperty());
+        canvas.widthProperty().addListener((obs, o, v) -> fullRepaint = true);
+        canvas.heightProperty().addListener((obs, o, v) -> fullRepaint = true);
+        canvas.setOnScroll(e -> scroll.setValue(Math.max(scroll.getMin(),
+                Math.min(scroll.getMax(), scroll.getValue() - Math.signum(e.getDeltaY())))));
+
+        scroll.setOrientation(Orientation.VERTICAL);
+        scroll.setUnitIncrement(1);
+        scroll.valueProperty().addListener((obs, o, v) -> {
+            firstRow = (int) Math.round(v.doubleValue());
+            fullRepaint = true;
+        });
+
+        summary.setPadding(new Insets(8, 12, 8, 12));
+        summary.setStyle("-fx-text-fill: #0F172A; -fx-font-weight: 700;");
+
+        BorderPane root = new BorderPane(canvasHolder);
+        root.setTop(summary);
+        root.setRight(scroll);
+        root.setStyle("-fx-background-color: #F8FAFC;");
+
+        stage.setTitle(title);
+        stage.setScene(new Scene(root, 1000, 720));
+        stage.setOnHidden(e -> close());
+    }
+
+    public void setOnClosed(Runnable onClosed) {
+        this.onClosed = onClosed;
+    }
+
+    public void show() {
+        timer.start();
+        stage.show();
+    }
+
+    private void close() {
+        closed = true;
+        timer.stop();
+        feeds.shutdownNow();
+        if (onClosed != null) onClosed.run();
+    }
+
+    private void schedule(MiniBoard board, BoardFeed feed, long delayMs) {
+        if (closed) return;
+        feeds.schedule(() -> {
+            long next;
+            try {
+                next = feed.step(board);
+            } catch (Exception e) {
+                board.status("error: " + e.getMessage());
+                next = ERROR_BACKOFF_MS;
+            }
+            schedule(board, feed, next);
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void render(long now) {
+        double w = canvas.getWidth();
+        double h = canvas.getHeight();
+        if (w <= 0 || h <= 0) return;
+
+        int cols = Math.max(1, (int) (w / TILE_W));
+        int visibleRows = (int) Math.ceil(h / TILE_H);
+        int totalRows = (boards.size() + cols - 1) / cols;
+        if (cols != columns) {
+            columns = cols;
+            fullRepaint = true;
+        }
+        scroll.setMax(Math.max(0, totalRows - Math.max(1, (int) (h / TILE_H))));
+        scroll.setVisibleAmount(visibleRows);
+
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        if (fullRepaint) {
+            g.setFill(BACKGROUND);
+            g.fillRect(0, 0, w, h);
+        }
+
+        int first = firstRow * cols;
+        int last = Math.min(boards.size(), first + visibleRows * cols);
+        for (int i = first; i < last; i++) {
+            MiniBoard b = boards.get(i);
+            if (!b.takeDirty() && !fullRepaint) continue;
+            int slot = i - first;
+            drawTile(g, b, (slot % cols) * TILE_W, (slot / cols) * TILE_H);
+            tilesPainted++;
+        }
+        fullRepaint = false;
+
+        if (now - lastSummary >= 1_000_000_000L) {
+            double secs = lastSummary == 0 ? 1 : (now - lastSummary) / 1e9;
+            summary.setText(String.format("%d boards · showing %d–%d · %.0f tile repaints/s",
+                    boards.size(), first + 1, last, tilesPainted / secs));
+            tilesPainted = 0;
+            lastSummary = now;
+        }
+    }
+
+    private void drawTile(GraphicsContext g, MiniBoard board, double x, double y) {
+        MiniBoard.Snapshot s = board.snapshot();
+
+        g.setFill(BACKGROUND);
+        g.fillRect(x, y, TILE_W, TILE_H);
+
+        double bx = x + 12, by = y + 6;
+        g.setFill(BOARD_BLUE);
+        g.fillRoundRect(bx - 4, by - 4, COLS * CELL + 8, ROWS * CELL + 8, 8, 8);
+
+        for (int r = 0; r < ROWS; r++) {
+            for (int c = 0; c < COLS; c++) {
+                long bit = MoveAnalyzer.bit(r, c);
+                g.setFill((s.human() & bit) != 0 ? HUMAN_COLOR : (s.ai() & bit) != 0 ? AI_COLOR : EMPTY_HOLE);
+                g.fillOval(bx + c * CELL + 2, by + r * CELL + 2, CELL - 4, CELL - 4);
+            }
+        }
+
+        double ty = by + ROWS * CELL + 16;
+        g.setFill(Color.web("#0F172A"));
+        g.setFont(TITLE_FONT);
+        g.fillText("#" + board.getId() + " · ply " + s.ply()
+                + (s.latencyMs() < 0 ? "" : String.format(" · %.0f ms", s.latencyMs())), bx - 4, ty);
+        g.setFill(s.status().startsWith("error") ? Color.web("#B91C1C") : Color.web("#64748B"));
+        g.setFont(STATUS_FONT);
+        g.fillText(s.status(), bx - 4, ty + 13, TILE_W - 16);
+    }
+}
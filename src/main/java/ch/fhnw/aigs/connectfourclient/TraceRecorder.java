@@ -0,0 +1,134 @@
+package ch.fhnw.aigs.connectfourclient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends HTTP exchanges to a compact binary trace file and reads them back.
+ * Each entry holds path, content types, both bodies, the start offset and the duration.
+ * Passwords and session tokens are replaced by a placeholder before anything is written.
+ */
+public class TraceRecorder implements Closeable {
+
+    private static final int MAGIC = 0x43345452; // "C4TR"
+    private static final int VERSION = 1;
+
+    private static final String REDACTED = "***";
+    private static final List<String> SECRET_FIELDS = List.of("password", "token");
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final ObjectMapper SMILE = new SmileMapper();
+
+    public record Entry(String path, String requestContentType, byte[] requestBody,
+                        int status, String responseContentType, byte[] responseBody,
+                        long offsetNanos, long durationNanos) {}
+
+    private final DataOutputStream out;
+    private final long startNanos = System.nanoTime();
+
+    public TraceRecorder(Path file) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.flush();
+    }
+
+    public synchronized void append(Transport.Request req, Transport.Response res, long t0, long durationNanos) throws IOException {
+        out.writeUTF(req.path());
+        out.writeUTF(nz(req.contentType()));
+        writeBytes(redact(req.contentType(), req.body()));
+        out.writeShort(res.status());
+        out.writeUTF(nz(res.contentType()));
+        writeBytes(redact(res.contentType(), res.body()));
+        out.writeLong(t0 - startNanos);
+        out.writeLong(durationNanos);
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    public static List<Entry> read(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a trace file: " + file);
+            int version = in.readUnsignedShort();
+            if (version != VERSION) throw new IOException("Unsupported trace version " + version);
+
+            while (true) {
+                String path;
+                try {
+                    path = in.readUTF();
+                } catch (EOFException eof) {
+                    break;
+                }
+                String reqType = in.readUTF();
+                byte[] reqBody = readBytes(in);
+                int status = in.readUnsignedShort();
+                String resType = in.readUTF();
+                byte[] resBody = readBytes(in);
+                long offset = in.readLong();
+                long duration = in.readLong();
+                entries.add(new Entry(path, emptyToNull(reqType), reqBody, status, emptyToNull(resType), resBody, offset, duration));
+            }
+        }
+        return entries;
+    }
+
+    /** Replaces secret fields in a JSON or Smile body; unparseable bodies are dropped rather than stored. */
+    static byte[] redact(String contentType, byte[] body) {
+        if (body == null || body.length == 0) return new byte[0];
+        ObjectMapper mapper = mapperFor(contentType);
+        try {
+            if (!(mapper.readTree(body) instanceof ObjectNode node)) return body;
+            boolean changed = false;
+            for (String field : SECRET_FIELDS) {
+                if (node.hasNonNull(field)) {
+                    node.put(field, REDACTED);
+                    changed = true;
+                }
+            }
+            return changed ? mapper.writeValueAsBytes(node) : body;
+        } catch (IOException e) {
+            return new byte[0];
+        }
+    }
+
+    static ObjectMapper mapperFor(String contentType) {
+        return WireFormat.fromContentType(contentType) == WireFormat.SMILE ? SMILE : JSON;
+    }
+
+    private void writeBytes(byte[] b) throws IOException {
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] b = new byte[in.readInt()];
+        in.readFully(b);
+        return b;
+    }
+
+    private static String nz(String s) {
+        return s == null ? "" : s;
+    }
+
+    private static String emptyToNull(String s) {
+        return s.isEmpty() ? null : s;
+    }
+}
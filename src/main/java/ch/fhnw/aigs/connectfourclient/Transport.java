@@ -0,0 +1,33 @@
+package ch.fhnw.aigs.connectfourclient;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Function;
+
+/**
+ * Moves one request/response pair between ApiClient and a game server (or a stand-in for one).
+ * MainApp picks the mode once at startup: -Dconnectfour.record=FILE or -Dconnectfour.replay=FILE
+ * (plus -Dconnectfour.replay.speed=fast to skip recorded pacing), otherwise plain HTTP.
+ */
+public interface Transport {
+
+    String RECORD_PROPERTY = "connectfour.record";
+    String REPLAY_PROPERTY = "connectfour.replay";
+    String REPLAY_SPEED_PROPERTY = "connectfour.replay.speed";
+
+    record Request(String path, String contentType, String accept, byte[] body) {}
+
+    record Response(int status, String contentType, byte[] body) {}
+
+    Response exchange(Request request) throws Exception;
+
+    static Function<String, Transport> http() {
+        return HttpTransport::new;
+    }
+
+    /** All server URLs append to the same trace file. */
+    static Function<String, Transport> recording(Path file) throws IOException {
+        TraceRecorder recorder = new TraceRecorder(file);
+        return url -> new RecordingTransport(new HttpTransport(url), recorder);
+    }
+}
@@ -0,0 +1,21 @@
+package ch.fhnw.aigs.connectfourclient;
+
+public enum WireFormat {
+    JSON("application/json"),
+    SMILE("application/x-jackson-smile");
+
+    private final String mediaType;
+
+    WireFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public static WireFormat fromContentType(String contentType) {
+        if (contentType != null && contentType.toLowerCase().startsWith(SMILE.mediaType)) return SMILE;
+        return JSON;
+    }
+}